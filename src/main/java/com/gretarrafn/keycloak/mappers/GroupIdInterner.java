@@ -0,0 +1,93 @@
+package com.gretarrafn.keycloak.mappers;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-realm canonical table of group ID strings.
+ * <p>
+ * Group IDs resolved through a realm's table share one {@link String} instance per group
+ * while any holder (a claim list, a cache entry, ...) still references it. Entries are
+ * weak-valued: once nothing references a canonical ID anymore it is collected, and its
+ * entry is cleared on the next lookup in that realm. Lookups are lock-free.
+ */
+final class GroupIdInterner {
+
+    private final Map<String, RealmTable> realms = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the canonical instance of {@code groupId} for the given realm.
+     * If {@code realmId} or {@code groupId} is null, {@code groupId} is returned as-is.
+     */
+    String intern(String realmId, String groupId) {
+        if (realmId == null || groupId == null) {
+            return groupId;
+        }
+        return realms.computeIfAbsent(realmId, id -> new RealmTable()).intern(groupId);
+    }
+
+    /**
+     * Drops the table of a removed realm.
+     */
+    void removeRealm(String realmId) {
+        if (realmId != null) {
+            realms.remove(realmId);
+        }
+    }
+
+    /**
+     * Number of group IDs currently held for the given realm (including not-yet-cleared entries).
+     */
+    int size(String realmId) {
+        RealmTable table = realmId != null ? realms.get(realmId) : null;
+        return table != null ? table.entries.size() : 0;
+    }
+
+    private static final class RealmTable {
+
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        private final ReferenceQueue<String> queue = new ReferenceQueue<>();
+
+        String intern(String groupId) {
+            expungeStaleEntries();
+
+            while (true) {
+                Entry existing = entries.get(groupId);
+                String canonical = existing != null ? existing.get() : null;
+                if (canonical != null) {
+                    return canonical;
+                }
+
+                Entry created = new Entry(groupId, queue);
+                boolean installed = existing == null
+                        ? entries.putIfAbsent(created.key, created) == null
+                        : entries.replace(created.key, existing, created);
+                if (installed) {
+                    return groupId;
+                }
+                // Lost the race to another thread; retry and pick up its canonical instance
+            }
+        }
+
+        private void expungeStaleEntries() {
+            Entry stale;
+            while ((stale = (Entry) queue.poll()) != null) {
+                entries.remove(stale.key, stale);
+            }
+        }
+    }
+
+    private static final class Entry extends WeakReference<String> {
+
+        // Separate String object sharing the canonical's characters, so the map key alone
+        // does not keep the canonical instance reachable
+        private final String key;
+
+        Entry(String canonical, ReferenceQueue<String> queue) {
+            super(canonical, queue);
+            this.key = new String(canonical);
+        }
+    }
+}
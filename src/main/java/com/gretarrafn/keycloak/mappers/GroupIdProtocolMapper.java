@@ -4,7 +4,9 @@ import org.jboss.logging.Logger;
 import org.keycloak.models.ClientSessionContext;
 import org.keycloak.models.GroupModel;
 import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
 import org.keycloak.models.ProtocolMapperModel;
+import org.keycloak.models.RealmModel;
 import org.keycloak.models.UserModel;
 import org.keycloak.models.UserSessionModel;
 import org.keycloak.protocol.oidc.mappers.AbstractOIDCProtocolMapper;
@@ -37,6 +39,31 @@ public class GroupIdProtocolMapper extends AbstractOIDCProtocolMapper
         OIDCAttributeMapperHelper.addIncludeInTokensConfig(CONFIG_PROPERTIES, GroupIdProtocolMapper.class);
     }
 
+    // Keycloak keeps one mapper instance per provider factory, so this is shared by all tokens
+    private final GroupIdInterner groupIdInterner;
+
+    public GroupIdProtocolMapper() {
+        this(new GroupIdInterner());
+    }
+
+    GroupIdProtocolMapper(GroupIdInterner groupIdInterner) {
+        this.groupIdInterner = groupIdInterner;
+    }
+
+    @Override
+    public void postInit(KeycloakSessionFactory factory) {
+        super.postInit(factory);
+        // Drop a realm's group ID table when the realm is deleted
+        factory.register(event -> {
+            if (event instanceof RealmModel.RealmRemovedEvent) {
+                RealmModel realm = ((RealmModel.RealmRemovedEvent) event).getRealm();
+                if (realm != null) {
+                    groupIdInterner.removeRealm(realm.getId());
+                }
+            }
+        });
+    }
+
     @Override
     public String getId() {
         return PROVIDER_ID;
@@ -113,9 +140,13 @@ public class GroupIdProtocolMapper extends AbstractOIDCProtocolMapper
                 return;
             }
 
+            RealmModel realm = userSession.getRealm();
+            String realmId = realm != null ? realm.getId() : null;
+
             // Keycloak 20.x: this exists on UserModel
             List<String> groupIds = user.getGroupsStream()
                     .map(GroupModel::getId)
+                    .map(groupId -> groupIdInterner.intern(realmId, groupId))
                     .collect(Collectors.toList());
 
             if (groupIds.isEmpty()) {
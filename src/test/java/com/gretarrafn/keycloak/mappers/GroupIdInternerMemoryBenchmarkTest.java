@@ -0,0 +1,98 @@
+package com.gretarrafn.keycloak.mappers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retained-heap comparison for cached group ID claim lists, with and without interning.
+ * <p>
+ * Opt-in because the plain run retains around 500 MB:
+ * {@code mvn test -Dtest=GroupIdInternerMemoryBenchmarkTest -Dbenchmark.memory=true -DargLine=-Xmx2g}
+ * (optionally {@code -Dbenchmark.users=...}, {@code -Dbenchmark.groups=...}, {@code -Dbenchmark.groupsPerUser=...}).
+ * <p>
+ * Retained heap is approximated as used heap after {@code System.gc()}, so treat the numbers as estimates.
+ */
+@EnabledIfSystemProperty(named = "benchmark.memory", matches = "true")
+@DisplayName("GroupIdInterner Memory Benchmark")
+class GroupIdInternerMemoryBenchmarkTest {
+
+    private static final String REALM_ID = "benchmark-realm";
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 1_000_000);
+    private static final int GROUPS = Integer.getInteger("benchmark.groups", 2_000);
+    private static final int GROUPS_PER_USER = Integer.getInteger("benchmark.groupsPerUser", 5);
+
+    @Test
+    @DisplayName("Interned claim lists retain less heap than plain claim lists")
+    void retainedHeap_InternedVsPlain() {
+        // Given
+        String[] realmGroupIds = new String[GROUPS];
+        for (int i = 0; i < GROUPS; i++) {
+            realmGroupIds[i] = UUID.randomUUID().toString();
+        }
+        GroupIdInterner interner = new GroupIdInterner();
+
+        // When
+        long plainBytes = retainedBytes(realmGroupIds, UnaryOperator.identity());
+        long internedBytes = retainedBytes(realmGroupIds, groupId -> interner.intern(REALM_ID, groupId));
+
+        // Then
+        System.out.printf(
+                "GroupIdInterner benchmark: %,d cached users x %d groups (of %,d)%n"
+                        + "  without interning: %,d bytes retained (%.1f MB)%n"
+                        + "  with interning:    %,d bytes retained (%.1f MB)%n",
+                USERS, GROUPS_PER_USER, GROUPS,
+                plainBytes, plainBytes / (1024.0 * 1024.0),
+                internedBytes, internedBytes / (1024.0 * 1024.0));
+
+        assertThat(internedBytes).isLessThan(plainBytes);
+    }
+
+    /**
+     * Builds one claim list per cached user - each group ID freshly materialized, as if read from
+     * storage for every token - and returns the heap retained by the cache.
+     */
+    private static long retainedBytes(String[] realmGroupIds, UnaryOperator<String> canonicalizer) {
+        long before = usedHeapAfterGc();
+
+        List<List<String>> cache = new ArrayList<>(USERS);
+        for (int user = 0; user < USERS; user++) {
+            List<String> groupIds = new ArrayList<>(GROUPS_PER_USER);
+            for (int g = 0; g < GROUPS_PER_USER; g++) {
+                String source = realmGroupIds[(user * 31 + g * 7) % realmGroupIds.length];
+                // Copy the characters: an ID read from storage has its own backing array,
+                // whereas new String(source) would share source's
+                groupIds.add(canonicalizer.apply(new String(source.toCharArray())));
+            }
+            cache.add(groupIds);
+        }
+
+        long after = usedHeapAfterGc();
+        assertThat(cache).hasSize(USERS); // keep the cache reachable until measured
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
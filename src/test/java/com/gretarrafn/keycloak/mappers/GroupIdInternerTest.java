@@ -0,0 +1,148 @@
+package com.gretarrafn.keycloak.mappers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("GroupIdInterner Tests")
+class GroupIdInternerTest {
+
+    private GroupIdInterner interner;
+
+    @BeforeEach
+    void setUp() {
+        interner = new GroupIdInterner();
+    }
+
+    @Test
+    @DisplayName("Equal group IDs in the same realm resolve to the same instance")
+    void intern_SameRealm_ReturnsSameInstance() {
+        // Given
+        String first = copyOf("group-uuid-1");
+        String second = copyOf("group-uuid-1");
+
+        // When
+        String internedFirst = interner.intern("realm-1", first);
+        String internedSecond = interner.intern("realm-1", second);
+
+        // Then
+        assertThat(internedFirst).isSameAs(first);
+        assertThat(internedSecond).isSameAs(first);
+        assertThat(interner.size("realm-1")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Realms keep separate tables")
+    void intern_DifferentRealms_KeepSeparateTables() {
+        // Given
+        String first = copyOf("group-uuid-1");
+        String second = copyOf("group-uuid-1");
+
+        // When
+        String internedFirst = interner.intern("realm-1", first);
+        String internedSecond = interner.intern("realm-2", second);
+
+        // Then
+        assertThat(internedFirst).isSameAs(first);
+        assertThat(internedSecond).isSameAs(second);
+        assertThat(interner.size("realm-1")).isEqualTo(1);
+        assertThat(interner.size("realm-2")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Distinct group IDs get distinct entries")
+    void intern_DistinctGroupIds_AddsEntryPerGroup() {
+        // When
+        interner.intern("realm-1", "group-uuid-1");
+        interner.intern("realm-1", "group-uuid-2");
+        interner.intern("realm-1", "group-uuid-1");
+
+        // Then
+        assertThat(interner.size("realm-1")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Null realm ID returns group ID unchanged")
+    void intern_NullRealmId_ReturnsInput() {
+        // Given
+        String groupId = copyOf("group-uuid-1");
+
+        // When/Then
+        assertThat(interner.intern(null, groupId)).isSameAs(groupId);
+        assertThat(interner.size(null)).isZero();
+    }
+
+    @Test
+    @DisplayName("Null group ID returns null")
+    void intern_NullGroupId_ReturnsNull() {
+        assertThat(interner.intern("realm-1", null)).isNull();
+        assertThat(interner.size("realm-1")).isZero();
+    }
+
+    @Test
+    @DisplayName("Removing a realm drops its table only")
+    void removeRealm_DropsOnlyThatRealm() {
+        // Given
+        interner.intern("realm-1", "group-uuid-1");
+        interner.intern("realm-2", "group-uuid-1");
+
+        // When
+        interner.removeRealm("realm-1");
+
+        // Then
+        assertThat(interner.size("realm-1")).isZero();
+        assertThat(interner.size("realm-2")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups of the same group ID agree on one instance")
+    void intern_Concurrent_ReturnsSingleInstance() throws Exception {
+        // Given
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return interner.intern("realm-1", copyOf("group-uuid-1"));
+                }));
+            }
+
+            // When
+            start.countDown();
+
+            // Then
+            String canonical = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(canonical);
+            }
+            assertThat(interner.size("realm-1")).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown realm has no entries")
+    void size_UnknownRealm_ReturnsZero() {
+        assertThat(interner.size("unknown-realm")).isZero();
+    }
+
+    // Helper methods
+
+    private static String copyOf(String value) {
+        return new String(value);
+    }
+}
@@ -9,12 +9,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.keycloak.models.ClientSessionContext;
 import org.keycloak.models.GroupModel;
 import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
 import org.keycloak.models.ProtocolMapperModel;
+import org.keycloak.models.RealmModel;
 import org.keycloak.models.UserModel;
 import org.keycloak.models.UserSessionModel;
 import org.keycloak.protocol.oidc.mappers.OIDCAttributeMapperHelper;
 import org.keycloak.provider.ProviderConfigProperty;
+import org.keycloak.provider.ProviderEventListener;
 import org.keycloak.representations.IDToken;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -32,6 +36,8 @@ class GroupIdProtocolMapperTest {
 
     private GroupIdProtocolMapper mapper;
     
+    private GroupIdInterner interner;
+    
     private IDToken token;
     
     private ProtocolMapperModel mapperModel;
@@ -52,7 +58,8 @@ class GroupIdProtocolMapperTest {
 
     @BeforeEach
     void setUp() {
-        mapper = new GroupIdProtocolMapper();
+        interner = new GroupIdInterner();
+        mapper = new GroupIdProtocolMapper(interner);
         config = new HashMap<>();
         
         // Use real IDToken instance instead of mock (IDToken is a concrete class)
@@ -504,6 +511,93 @@ class GroupIdProtocolMapperTest {
         }
     }
 
+    @Nested
+    @DisplayName("Group ID Interning Tests")
+    class GroupIdInterningTests {
+        
+        @Test
+        @DisplayName("Tokens in the same realm share one String instance per group")
+        void setClaim_SameRealm_SharesGroupIdInstances() {
+            // Given
+            RealmModel realm = mock(RealmModel.class);
+            when(realm.getId()).thenReturn("realm-1");
+            
+            IDToken token1 = new IDToken();
+            IDToken token2 = new IDToken();
+            
+            UserSessionModel userSession1 = mock(UserSessionModel.class);
+            UserSessionModel userSession2 = mock(UserSessionModel.class);
+            UserModel user1 = mock(UserModel.class);
+            UserModel user2 = mock(UserModel.class);
+            
+            // Distinct but equal ID instances, as if each group was loaded separately per token
+            GroupModel group1 = createMockGroup(new String("group-uuid-1"));
+            GroupModel group2 = createMockGroup(new String("group-uuid-1"));
+            
+            when(userSession1.getRealm()).thenReturn(realm);
+            when(userSession2.getRealm()).thenReturn(realm);
+            when(userSession1.getUser()).thenReturn(user1);
+            when(userSession2.getUser()).thenReturn(user2);
+            when(user1.getGroupsStream()).thenReturn(Stream.of(group1));
+            when(user2.getGroupsStream()).thenReturn(Stream.of(group2));
+            
+            // When
+            mapper.setClaim(token1, mapperModel, userSession1, keycloakSession, clientSessionContext);
+            mapper.setClaim(token2, mapperModel, userSession2, keycloakSession, clientSessionContext);
+            
+            // Then
+            @SuppressWarnings("unchecked")
+            List<String> groupIds1 = (List<String>) token1.getOtherClaims().get("group_ids");
+            @SuppressWarnings("unchecked")
+            List<String> groupIds2 = (List<String>) token2.getOtherClaims().get("group_ids");
+            assertThat(groupIds1).containsExactly("group-uuid-1");
+            assertThat(groupIds2.get(0)).isSameAs(groupIds1.get(0));
+            assertThat(interner.size("realm-1")).isEqualTo(1);
+        }
+        
+        @Test
+        @DisplayName("Null realm still adds claim with group IDs")
+        void setClaim_NullRealm_AddsClaim() {
+            // Given
+            String groupId = "group-uuid-1";
+            GroupModel group = createMockGroup(groupId);
+            when(userSession.getRealm()).thenReturn(null);
+            when(userSession.getUser()).thenReturn(user);
+            when(user.getGroupsStream()).thenReturn(Stream.of(group));
+            
+            // When
+            mapper.setClaim(token, mapperModel, userSession, keycloakSession, clientSessionContext);
+            
+            // Then
+            @SuppressWarnings("unchecked")
+            List<String> groupIds = (List<String>) token.getOtherClaims().get("group_ids");
+            assertThat(groupIds).containsExactly(groupId);
+            assertThat(interner.size(null)).isZero();
+        }
+        
+        @Test
+        @DisplayName("Realm removal drops the realm's group ID table")
+        void postInit_RealmRemoved_DropsRealmTable() {
+            // Given
+            KeycloakSessionFactory sessionFactory = mock(KeycloakSessionFactory.class);
+            RealmModel realm = mock(RealmModel.class);
+            RealmModel.RealmRemovedEvent event = mock(RealmModel.RealmRemovedEvent.class);
+            when(realm.getId()).thenReturn("realm-1");
+            when(event.getRealm()).thenReturn(realm);
+            interner.intern("realm-1", "group-uuid-1");
+            
+            mapper.postInit(sessionFactory);
+            ArgumentCaptor<ProviderEventListener> listener = ArgumentCaptor.forClass(ProviderEventListener.class);
+            verify(sessionFactory).register(listener.capture());
+            
+            // When
+            listener.getValue().onEvent(event);
+            
+            // Then
+            assertThat(interner.size("realm-1")).isZero();
+        }
+    }
+
     // Helper methods
     
     private GroupModel createMockGroup(String id) {